@@ -0,0 +1,79 @@
+package com.sumon.studytracker;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.os.Bundle;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Round-trips widget state through WidgetStateProvider from the main app process.
+ * In the default build this only covers the in-process SharedPreferences path; run with
+ * ./gradlew connectedAndroidTest -PisolatedWidgetProcess to exercise the cross-process
+ * ContentResolver path against the ":widget" provider.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WidgetStateProviderTest {
+
+    private static final String[] TEST_KEYS = {
+        "test_string", "test_long", "test_int", "test_boolean", "test_wanted", "test_unwanted"
+    };
+
+    @After
+    public void removeTestKeys() {
+        // Remove through the store so the provider's in-memory copy drops them too
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        WidgetStateProvider.Editor editor = new WidgetStateProvider.Editor();
+        for (String key : TEST_KEYS) {
+            editor.remove(key);
+        }
+        WidgetStateProvider.write(context, editor);
+    }
+
+    @Test
+    public void writeThenRead_roundTripsSupportedTypes() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        WidgetStateProvider.write(context, new WidgetStateProvider.Editor()
+            .putString("test_string", "[{\"name\":\"Math\"}]")
+            .putLong("test_long", 1234567890123L)
+            .putInt("test_int", 42)
+            .putBoolean("test_boolean", true));
+
+        Bundle state = WidgetStateProvider.read(context, "test_string", "test_long", "test_int", "test_boolean");
+
+        assertEquals("[{\"name\":\"Math\"}]", state.getString("test_string"));
+        assertEquals(1234567890123L, state.getLong("test_long", 0));
+        assertEquals(42, state.getInt("test_int", 0));
+        assertTrue(state.getBoolean("test_boolean", false));
+    }
+
+    @Test
+    public void read_returnsOnlyRequestedKeys() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        WidgetStateProvider.write(context, new WidgetStateProvider.Editor()
+            .putInt("test_wanted", 1)
+            .putString("test_unwanted", "payload"));
+
+        Bundle state = WidgetStateProvider.read(context, "test_wanted", "test_missing");
+
+        assertEquals(1, state.getInt("test_wanted", 0));
+        assertFalse(state.containsKey("test_unwanted"));
+        assertFalse(state.containsKey("test_missing"));
+    }
+
+    @Test
+    public void remove_deletesKey() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        WidgetStateProvider.write(context, new WidgetStateProvider.Editor().putInt("test_int", 7));
+        WidgetStateProvider.write(context, new WidgetStateProvider.Editor().remove("test_int"));
+
+        assertFalse(WidgetStateProvider.read(context, "test_int").containsKey("test_int"));
+    }
+}
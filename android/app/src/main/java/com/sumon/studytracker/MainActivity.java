@@ -5,6 +5,7 @@ import com.getcapacitor.BridgeActivity;
 public class MainActivity extends BridgeActivity {
     @Override
     public void onCreate(android.os.Bundle savedInstanceState) {
+        ProcessMetrics.reportStartup("MainActivity");
         registerPlugin(WidgetDataPlugin.class);
         super.onCreate(savedInstanceState);
     }
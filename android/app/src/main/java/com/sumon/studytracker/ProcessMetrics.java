@@ -0,0 +1,38 @@
+package com.sumon.studytracker;
+
+import android.os.Debug;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Logs cold-start latency and resident memory the first time a component runs
+ * in its process. Off by default; enable with:
+ *   adb shell setprop log.tag.ProcessMetrics DEBUG
+ */
+final class ProcessMetrics {
+
+    private static final String TAG = "ProcessMetrics";
+
+    private static boolean reported = false;
+
+    private ProcessMetrics() {}
+
+    static synchronized void reportStartup(String component) {
+        if (reported || !Log.isLoggable(TAG, Log.DEBUG)) {
+            return;
+        }
+        reported = true;
+
+        long startupMs = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        long pssKb = Debug.getPss();
+        Runtime runtime = Runtime.getRuntime();
+        long heapKb = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+
+        Log.d(TAG, "pid=" + Process.myPid()
+            + " component=" + component
+            + " startupMs=" + startupMs
+            + " pssKb=" + pssKb
+            + " heapKb=" + heapKb);
+    }
+}
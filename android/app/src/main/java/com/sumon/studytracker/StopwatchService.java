@@ -34,6 +34,7 @@ public class StopwatchService extends Service {
     
     @Override
     public void onCreate() {
+        ProcessMetrics.reportStartup("StopwatchService");
         super.onCreate();
         createNotificationChannel();
         handler = new Handler(Looper.getMainLooper());
@@ -5,8 +5,8 @@ import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
+import android.os.Bundle;
 import android.os.SystemClock;
 import android.widget.RemoteViews;
 
@@ -21,7 +21,6 @@ public class StudyWidgetProvider extends AppWidgetProvider {
     private static final String ACTION_TIMER_RESET = "com.sumon.studytracker.ACTION_TIMER_RESET";
     private static final String ACTION_THEME_TOGGLE = "com.sumon.studytracker.ACTION_THEME_TOGGLE";
 
-    private static final String PREFS_NAME = "WidgetPrefs";
     private static final String PREF_BASE = "timer_base_";
     private static final String PREF_RUNNING = "timer_running_";
     private static final String PREF_PAUSE_TIME = "timer_pause_time_";
@@ -29,32 +28,34 @@ public class StudyWidgetProvider extends AppWidgetProvider {
 
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        Bundle state = WidgetStateProvider.read(context, getWidgetKeys(appWidgetIds));
         for (int appWidgetId : appWidgetIds) {
-            updateAppWidget(context, appWidgetManager, appWidgetId);
+            updateAppWidget(context, appWidgetManager, appWidgetId, state);
         }
     }
 
     @Override
     public void onReceive(Context context, Intent intent) {
+        ProcessMetrics.reportStartup("StudyWidgetProvider");
         super.onReceive(context, intent);
 
         String action = intent.getAction();
         int appWidgetId = intent.getIntExtra(AppWidgetManager.EXTRA_APPWIDGET_ID, AppWidgetManager.INVALID_APPWIDGET_ID);
 
-        if (appWidgetId == AppWidgetManager.INVALID_APPWIDGET_ID) {
+        if (appWidgetId == AppWidgetManager.INVALID_APPWIDGET_ID || !isWidgetAction(action)) {
             return;
         }
 
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        SharedPreferences.Editor editor = prefs.edit();
+        Bundle state = WidgetStateProvider.read(context, getWidgetKeys(appWidgetId));
+        WidgetStateProvider.Editor edits = new WidgetStateProvider.Editor();
 
         if (ACTION_TIMER_START.equals(action)) {
-            long pauseTime = prefs.getLong(PREF_PAUSE_TIME + appWidgetId, 0);
+            long pauseTime = state.getLong(PREF_PAUSE_TIME + appWidgetId, 0);
             long base = SystemClock.elapsedRealtime() - pauseTime;
-            editor.putLong(PREF_BASE + appWidgetId, base);
-            editor.putBoolean(PREF_RUNNING + appWidgetId, true);
-            editor.apply();
-            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId);
+            edits.putLong(PREF_BASE + appWidgetId, base);
+            edits.putBoolean(PREF_RUNNING + appWidgetId, true);
+            commit(context, state, edits);
+            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId, state);
             
             // Start foreground notification service
             Intent serviceIntent = new Intent(context, StopwatchService.class);
@@ -64,12 +65,12 @@ public class StudyWidgetProvider extends AppWidgetProvider {
             context.startForegroundService(serviceIntent);
 
         } else if (ACTION_TIMER_PAUSE.equals(action)) {
-            long base = prefs.getLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
+            long base = state.getLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
             long pauseTime = SystemClock.elapsedRealtime() - base;
-            editor.putLong(PREF_PAUSE_TIME + appWidgetId, pauseTime);
-            editor.putBoolean(PREF_RUNNING + appWidgetId, false);
-            editor.apply();
-            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId);
+            edits.putLong(PREF_PAUSE_TIME + appWidgetId, pauseTime);
+            edits.putBoolean(PREF_RUNNING + appWidgetId, false);
+            commit(context, state, edits);
+            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId, state);
             
             // Stop foreground notification service
             Intent serviceIntent = new Intent(context, StopwatchService.class);
@@ -78,11 +79,11 @@ public class StudyWidgetProvider extends AppWidgetProvider {
             context.startService(serviceIntent);
 
         } else if (ACTION_TIMER_RESET.equals(action)) {
-            editor.putLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
-            editor.putLong(PREF_PAUSE_TIME + appWidgetId, 0);
-            editor.putBoolean(PREF_RUNNING + appWidgetId, false);
-            editor.apply();
-            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId);
+            edits.putLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
+            edits.putLong(PREF_PAUSE_TIME + appWidgetId, 0);
+            edits.putBoolean(PREF_RUNNING + appWidgetId, false);
+            commit(context, state, edits);
+            updateAppWidget(context, AppWidgetManager.getInstance(context), appWidgetId, state);
             
             // Stop foreground notification service
             Intent serviceIntent = new Intent(context, StopwatchService.class);
@@ -91,24 +92,50 @@ public class StudyWidgetProvider extends AppWidgetProvider {
             context.startService(serviceIntent);
 
         } else if (ACTION_THEME_TOGGLE.equals(action)) {
-            int currentTheme = prefs.getInt(PREF_THEME + appWidgetId, 0);
+            int currentTheme = state.getInt(PREF_THEME + appWidgetId, 0);
             int newTheme = (currentTheme + 1) % 2; // Cycle 2 themes: Dark (0), Light (1)
-            editor.putInt(PREF_THEME + appWidgetId, newTheme);
-            editor.putInt("current_theme", newTheme); // Store for service to read
-            editor.apply();
+            edits.putInt(PREF_THEME + appWidgetId, newTheme);
+            edits.putInt("current_theme", newTheme); // Store for service to read
+            commit(context, state, edits);
             AppWidgetManager awm = AppWidgetManager.getInstance(context);
-            updateAppWidget(context, awm, appWidgetId);
+            updateAppWidget(context, awm, appWidgetId, state);
             // Force list refresh to pick up new theme colors
             awm.notifyAppWidgetViewDataChanged(appWidgetId, R.id.widget_list);
         }
     }
 
-    static void updateAppWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    // Filters out system broadcasts that carry a widget id too (e.g. APPWIDGET_OPTIONS_CHANGED on resize)
+    private static boolean isWidgetAction(String action) {
+        return ACTION_TIMER_START.equals(action)
+            || ACTION_TIMER_PAUSE.equals(action)
+            || ACTION_TIMER_RESET.equals(action)
+            || ACTION_THEME_TOGGLE.equals(action);
+    }
+
+    private static void commit(Context context, Bundle state, WidgetStateProvider.Editor edits) {
+        WidgetStateProvider.write(context, edits);
+        // Keep the local snapshot in sync so the redraw below skips a second read
+        edits.applyTo(state);
+    }
+
+    // Only the per-widget keys; the subjects list ("data") is read by the list service
+    private static String[] getWidgetKeys(int... appWidgetIds) {
+        String[] keys = new String[appWidgetIds.length * 4];
+        int i = 0;
+        for (int appWidgetId : appWidgetIds) {
+            keys[i++] = PREF_BASE + appWidgetId;
+            keys[i++] = PREF_RUNNING + appWidgetId;
+            keys[i++] = PREF_PAUSE_TIME + appWidgetId;
+            keys[i++] = PREF_THEME + appWidgetId;
+        }
+        return keys;
+    }
+
+    static void updateAppWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId, Bundle state) {
         RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_layout);
 
         // --- 1. THEME LOGIC (2 themes: Dark & Light) ---
-        int theme = prefs.getInt(PREF_THEME + appWidgetId, 0);
+        int theme = state.getInt(PREF_THEME + appWidgetId, 0);
         boolean isLightTheme = (theme == 1);
         
         // Apply background and section colors
@@ -165,9 +192,9 @@ public class StudyWidgetProvider extends AppWidgetProvider {
         views.setTextViewText(R.id.widget_date_full, dateFormat.format(now));
 
         // --- 3. TIMER LOGIC ---
-        long base = prefs.getLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
-        long pauseTime = prefs.getLong(PREF_PAUSE_TIME + appWidgetId, 0);
-        boolean isRunning = prefs.getBoolean(PREF_RUNNING + appWidgetId, false);
+        long base = state.getLong(PREF_BASE + appWidgetId, SystemClock.elapsedRealtime());
+        long pauseTime = state.getLong(PREF_PAUSE_TIME + appWidgetId, 0);
+        boolean isRunning = state.getBoolean(PREF_RUNNING + appWidgetId, false);
 
         if (isRunning) {
             views.setChronometer(R.id.widget_timer_chronometer, base, "%s", true);
@@ -3,7 +3,7 @@ package com.sumon.studytracker;
 import android.appwidget.AppWidgetManager;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
+import android.os.Bundle;
 import android.widget.RemoteViews;
 import android.widget.RemoteViewsService;
 
@@ -16,6 +16,7 @@ import java.util.List;
 public class StudyWidgetService extends RemoteViewsService {
     @Override
     public RemoteViewsFactory onGetViewFactory(Intent intent) {
+        ProcessMetrics.reportStartup("StudyWidgetService");
         return new StudyWidgetFactory(this.getApplicationContext(), intent);
     }
 }
@@ -23,6 +24,7 @@ public class StudyWidgetService extends RemoteViewsService {
 class StudyWidgetFactory implements RemoteViewsService.RemoteViewsFactory {
     private Context context;
     private List<JSONObject> items = new ArrayList<>();
+    private boolean isLightTheme = false;
 
     public StudyWidgetFactory(Context context, Intent intent) {
         this.context = context;
@@ -34,8 +36,9 @@ class StudyWidgetFactory implements RemoteViewsService.RemoteViewsFactory {
     @Override
     public void onDataSetChanged() {
         items.clear();
-        SharedPreferences prefs = context.getSharedPreferences("WidgetPrefs", Context.MODE_PRIVATE);
-        String dataStr = prefs.getString("data", "[]");
+        Bundle state = WidgetStateProvider.read(context, "current_theme", "data");
+        isLightTheme = (state.getInt("current_theme", 0) == 1);
+        String dataStr = state.getString("data", "[]");
         try {
             JSONArray jsonArray = new JSONArray(dataStr);
             for (int i = 0; i < jsonArray.length(); i++) {
@@ -90,11 +93,7 @@ class StudyWidgetFactory implements RemoteViewsService.RemoteViewsFactory {
             String progressText = actual + "/" + planned + " min";
             views.setTextViewText(R.id.widget_subject_kpi, progressText);
 
-            // Apply theme-based colors (2 themes: 0=Dark, 1=Light)
-            SharedPreferences prefs = context.getSharedPreferences("WidgetPrefs", Context.MODE_PRIVATE);
-            int theme = prefs.getInt("current_theme", 0);
-            boolean isLightTheme = (theme == 1);
-            
+            // Apply theme-based colors (2 themes: 0=Dark, 1=Light), read in onDataSetChanged
             // Alternating row colors (zebra striping)
             int rowBgColor;
             if (isLightTheme) {
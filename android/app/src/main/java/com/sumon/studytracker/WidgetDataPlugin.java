@@ -4,7 +4,7 @@ import android.appwidget.AppWidgetManager;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
+import android.util.Log;
 
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
@@ -16,6 +16,8 @@ import org.json.JSONException;
 @CapacitorPlugin(name = "WidgetData")
 public class WidgetDataPlugin extends Plugin {
 
+    private static final String TAG = "WidgetDataPlugin";
+
     @PluginMethod
     public void updateData(PluginCall call) {
         String data = call.getString("data");
@@ -25,16 +27,28 @@ public class WidgetDataPlugin extends Plugin {
         }
 
         Context context = getContext();
-        SharedPreferences prefs = context.getSharedPreferences("WidgetPrefs", Context.MODE_PRIVATE);
-        prefs.edit().putString("data", data).apply();
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+        int[] ids = appWidgetManager.getAppWidgetIds(new ComponentName(context, StudyWidgetProvider.class));
+
+        // Isolated build only: with no widget placed, don't start the ":widget" process just to
+        // store data. The app pushes the list again on its next load/change.
+        if (BuildConfig.ISOLATED_WIDGET_PROCESS && ids.length == 0) {
+            call.resolve();
+            return;
+        }
+
+        // Goes through the widget process's provider in the isolated build
+        try {
+            WidgetStateProvider.write(context, new WidgetStateProvider.Editor().putString("data", data));
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to store widget data", e);
+            call.reject("Failed to store widget data", e);
+            return;
+        }
 
         // Trigger Widget Update
         Intent intent = new Intent(context, StudyWidgetProvider.class);
         intent.setAction(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
-        
-        // Get all ids
-        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-        int[] ids = appWidgetManager.getAppWidgetIds(new ComponentName(context, StudyWidgetProvider.class));
         intent.putExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS, ids);
         
         context.sendBroadcast(intent);
@@ -0,0 +1,239 @@
+package com.sumon.studytracker;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Access point for the widget/timer state in WidgetPrefs. In the default build the
+ * helpers below use SharedPreferences directly. With -PisolatedWidgetProcess this
+ * provider is declared in the ":widget" process and owns the file; the main process
+ * (WidgetDataPlugin) reaches it through ContentResolver calls, so the file is only
+ * ever opened by one process.
+ */
+public class WidgetStateProvider extends ContentProvider {
+
+    static final String PREFS_NAME = "WidgetPrefs";
+
+    private static final String TAG = "WidgetStateProvider";
+
+    private static final String METHOD_READ = "read";
+    private static final String METHOD_WRITE = "write";
+    private static final String EXTRA_KEYS = "keys";
+
+    // Write payload is split by type so values come back out with typed getters
+    private static final String TYPE_STRING = "string";
+    private static final String TYPE_LONG = "long";
+    private static final String TYPE_INT = "int";
+    private static final String TYPE_BOOLEAN = "boolean";
+    private static final String KEY_REMOVE = "remove";
+
+    private SharedPreferences prefs;
+
+    @Override
+    public boolean onCreate() {
+        // Opened lazily so provider install stays cheap on process start
+        return true;
+    }
+
+    @Override
+    public Bundle call(String method, String arg, Bundle extras) {
+        if (METHOD_READ.equals(method)) {
+            String[] keys = extras != null ? extras.getStringArray(EXTRA_KEYS) : null;
+            return readFrom(getPrefs(), keys);
+
+        } else if (METHOD_WRITE.equals(method) && extras != null) {
+            writeTo(getPrefs(), extras);
+            return null;
+        }
+
+        return super.call(method, arg, extras);
+    }
+
+    private static Bundle readFrom(SharedPreferences prefs, String[] keys) {
+        Bundle state = new Bundle();
+        if (keys != null) {
+            Map<String, ?> all = prefs.getAll();
+            for (String key : keys) {
+                putValue(state, key, all.get(key));
+            }
+        }
+        return state;
+    }
+
+    private static void writeTo(SharedPreferences prefs, Bundle extras) {
+        SharedPreferences.Editor editor = prefs.edit();
+        ArrayList<String> removals = extras.getStringArrayList(KEY_REMOVE);
+        if (removals != null) {
+            for (String key : removals) {
+                editor.remove(key);
+            }
+        }
+        for (String type : extras.keySet()) {
+            if (KEY_REMOVE.equals(type)) {
+                continue;
+            }
+            Bundle values = extras.getBundle(type);
+            if (values == null) {
+                throw new IllegalArgumentException("Unsupported widget state type: " + type);
+            }
+            for (String key : values.keySet()) {
+                if (TYPE_STRING.equals(type)) {
+                    editor.putString(key, values.getString(key));
+                } else if (TYPE_LONG.equals(type)) {
+                    editor.putLong(key, values.getLong(key));
+                } else if (TYPE_INT.equals(type)) {
+                    editor.putInt(key, values.getInt(key));
+                } else if (TYPE_BOOLEAN.equals(type)) {
+                    editor.putBoolean(key, values.getBoolean(key));
+                } else {
+                    throw new IllegalArgumentException("Unsupported widget state type: " + type);
+                }
+            }
+        }
+        // In-memory copy is updated synchronously, disk write happens in background
+        editor.apply();
+    }
+
+    private static void putValue(Bundle state, String key, Object value) {
+        if (value == null) {
+            return;
+        } else if (value instanceof String) {
+            state.putString(key, (String) value);
+        } else if (value instanceof Long) {
+            state.putLong(key, (Long) value);
+        } else if (value instanceof Integer) {
+            state.putInt(key, (Integer) value);
+        } else if (value instanceof Boolean) {
+            state.putBoolean(key, (Boolean) value);
+        } else {
+            Log.w(TAG, "Skipping unsupported pref type for " + key + ": " + value.getClass().getName());
+        }
+    }
+
+    private synchronized SharedPreferences getPrefs() {
+        if (prefs == null) {
+            prefs = getContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        }
+        return prefs;
+    }
+
+    // --- Client helpers ---
+
+    /** Pending writes, grouped by type. Mirrors SharedPreferences.Editor for the types the store supports. */
+    static final class Editor {
+        private final Bundle strings = new Bundle();
+        private final Bundle longs = new Bundle();
+        private final Bundle ints = new Bundle();
+        private final Bundle booleans = new Bundle();
+        private final ArrayList<String> removals = new ArrayList<>();
+
+        Editor putString(String key, String value) {
+            strings.putString(key, value);
+            return this;
+        }
+
+        Editor putLong(String key, long value) {
+            longs.putLong(key, value);
+            return this;
+        }
+
+        Editor putInt(String key, int value) {
+            ints.putInt(key, value);
+            return this;
+        }
+
+        Editor putBoolean(String key, boolean value) {
+            booleans.putBoolean(key, value);
+            return this;
+        }
+
+        Editor remove(String key) {
+            removals.add(key);
+            return this;
+        }
+
+        /** Copies the pending values into a snapshot previously returned by read(). */
+        void applyTo(Bundle state) {
+            for (String key : removals) {
+                state.remove(key);
+            }
+            state.putAll(strings);
+            state.putAll(longs);
+            state.putAll(ints);
+            state.putAll(booleans);
+        }
+
+        private Bundle toBundle() {
+            Bundle extras = new Bundle();
+            extras.putBundle(TYPE_STRING, strings);
+            extras.putBundle(TYPE_LONG, longs);
+            extras.putBundle(TYPE_INT, ints);
+            extras.putBundle(TYPE_BOOLEAN, booleans);
+            extras.putStringArrayList(KEY_REMOVE, removals);
+            return extras;
+        }
+    }
+
+    /** Reads only the given keys; missing keys are absent from the result. */
+    static Bundle read(Context context, String... keys) {
+        if (!BuildConfig.ISOLATED_WIDGET_PROCESS) {
+            return readFrom(getLocalPrefs(context), keys);
+        }
+        Bundle extras = new Bundle();
+        extras.putStringArray(EXTRA_KEYS, keys);
+        Bundle state = context.getContentResolver().call(getUri(context), METHOD_READ, null, extras);
+        return state != null ? state : new Bundle();
+    }
+
+    static void write(Context context, Editor editor) {
+        if (!BuildConfig.ISOLATED_WIDGET_PROCESS) {
+            writeTo(getLocalPrefs(context), editor.toBundle());
+            return;
+        }
+        context.getContentResolver().call(getUri(context), METHOD_WRITE, null, editor.toBundle());
+    }
+
+    private static SharedPreferences getLocalPrefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static Uri getUri(Context context) {
+        return Uri.parse("content://" + context.getPackageName() + ".widgetstate");
+    }
+
+    // --- Unused ContentProvider surface ---
+
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        return null;
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        return null;
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        return null;
+    }
+
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        return 0;
+    }
+
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        return 0;
+    }
+}